@@ -1,7 +1,39 @@
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
 public class App {
     public static void main(String[] args) throws Exception {
 
-        ExpensesManager em = new ExpensesManager();
+        // Optional settings before the command: --ledger, --max-ledgers, --max-bytes
+        Path ledgerPath = ExpensesManager.DEFAULT_FILE_PATH;
+        int maxLedgers = LedgerRegistry.DEFAULT_MAX_LEDGERS;
+        long maxBytes = LedgerRegistry.DEFAULT_MAX_BYTES;
+        boolean ledgerSet = false;
+        boolean budgetSet = false;
+        while (args.length >= 1 && args[0].startsWith("--")) {
+            if (args.length < 2 || args[1].startsWith("--")) {
+                throw new IllegalArgumentException("Missing value for option " + args[0]);
+            }
+
+            switch (args[0].toLowerCase()) {
+                case "--ledger":
+                    ledgerPath = Path.of(args[1]);
+                    ledgerSet = true;
+                    break;
+                case "--max-ledgers":
+                    maxLedgers = Integer.parseInt(args[1]);
+                    budgetSet = true;
+                    break;
+                case "--max-bytes":
+                    maxBytes = Long.parseLong(args[1]);
+                    budgetSet = true;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: " + args[0]);
+            }
+            args = Arrays.copyOfRange(args, 2, args.length);
+        }
 
         if (args.length < 1) {
             throw new IllegalArgumentException("Use: java -cp bin App\n" +
@@ -9,11 +41,49 @@ public class App {
                     "  update <id> <descriptionesc|null> <amount|null> <category|null>\n" +
                     "  delete <id>\n" +
                     "  list-<general|food|entertainment|health|shopping|bills>\n" +
-                    "  list-all");
+                    "  list-all\n" +
+                    "  total-all <ledger> [ledger ...]\n" +
+                    "Options (before the command):\n" +
+                    "  --ledger <file>      ledger to use (default expenses.json)\n" +
+                    "  --max-ledgers <n>    ledgers kept in memory by total-all (default " + LedgerRegistry.DEFAULT_MAX_LEDGERS + ")\n" +
+                    "  --max-bytes <n>      estimated bytes kept in memory by total-all (default " + LedgerRegistry.DEFAULT_MAX_BYTES + ")");
         }
 
         String command = args[0].toLowerCase();
 
+        // Reject options the command doesn't use instead of ignoring them
+        if (command.equals("total-all") && ledgerSet) {
+            throw new IllegalArgumentException("--ledger doesn't apply to total-all, pass the ledgers after the command.");
+        }
+        if (!command.equals("total-all") && budgetSet) {
+            throw new IllegalArgumentException("--max-ledgers and --max-bytes only apply to total-all.");
+        }
+
+        // Cross-ledger commands don't use a single ledger
+        if (command.equals("total-all")) {
+            if (args.length < 2) {
+                throw new IllegalArgumentException("Use: total-all <ledger> [ledger ...]");
+            }
+            // total-all only reads, so a missing file is an error instead of an empty ledger
+            for (int i = 1; i < args.length; i++) {
+                if (!Files.exists(Path.of(args[i]))) {
+                    throw new IllegalArgumentException("Ledger file not found: " + args[i]);
+                }
+            }
+
+            LedgerRegistry registry = new LedgerRegistry(maxLedgers, maxBytes);
+            double total = 0;
+            for (int i = 1; i < args.length; i++) {
+                double ledgerTotal = registry.get(Path.of(args[i])).getTotal();
+                System.out.println(args[i] + ": " + ledgerTotal);
+                total += ledgerTotal;
+            }
+            System.out.println("Total: " + total);
+            return;
+        }
+
+        ExpensesManager em = new ExpensesManager(ledgerPath);
+
         switch (command) {
             case "add":
                 if (args.length < 3) {
@@ -4,6 +4,7 @@ import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.function.LongConsumer;
 import java.util.stream.Stream;
 
 /**
@@ -19,18 +20,74 @@ public class ExpensesManager {
     private ArrayList<Expense> expenses;
 
     /**
-     * Attribute for the .json file path.
+     * Default ledger file used when no path is indicated.
      */
-    private final Path FILE_PATH = Path.of("expenses.json");
+    public static final Path DEFAULT_FILE_PATH = Path.of("expenses.json");
+
+    /**
+     * Attribute for the .json file path of this ledger.
+     */
+    private final Path FILE_PATH;
+
+    /**
+     * Attribute that tells if there are changes not yet written to the JSON file.
+     */
+    private boolean dirty = false;
+
+    /**
+     * Attribute that tells if every change is written to the JSON file right away.
+     * When false, changes stay in memory until saveExpenses() is called.
+     */
+    private boolean autoSave;
+
+    /**
+     * Attribute for the approximate number of bytes this ledger takes in memory.
+     * Updated on every add, update and delete.
+     */
+    private long size;
+
+    /**
+     * Attribute that is told how much the size changed after each change (can be null).
+     */
+    private LongConsumer sizeListener;
 
     // ---- CONSTRUCTOR ----
+    /**
+     * Initializes the expense manager with the default JSON file.
+     */
+    public ExpensesManager() {
+        this(DEFAULT_FILE_PATH);
+    }
+
     /**
      * Initializes the expense manager and loads the JSON file.
+     * Every change is saved right away.
      * 
      * @param filePath Path to the JSON file.
      */
-    public ExpensesManager() {
+    public ExpensesManager(Path filePath) {
+        this(filePath, true);
+    }
+
+    /**
+     * Initializes the expense manager and loads the JSON file.
+     * 
+     * @param filePath Path to the JSON file.
+     * @param autoSave If false, changes are kept in memory until saveExpenses() is called.
+     */
+    public ExpensesManager(Path filePath, boolean autoSave) {
+        if (filePath == null) {
+            throw new IllegalArgumentException("Ledger path can't be null.");
+        }
+
+        this.FILE_PATH = filePath;
+        this.autoSave = autoSave;
         this.expenses = loadExpenses();
+
+        this.size = 64; // The manager and its list.
+        for (Expense expense : expenses) {
+            this.size += sizeOf(expense);
+        }
     }
 
     /**
@@ -50,7 +107,8 @@ public class ExpensesManager {
         }
 
         expenses.add(newExpense);
-        saveExpenses();
+        resize(sizeOf(newExpense));
+        markDirty();
         System.out.println(description + " added with the amount: " + amount);
     }
 
@@ -64,7 +122,8 @@ public class ExpensesManager {
 
         if (expenseToDelete != null) {
             expenses.remove(expenseToDelete);
-            saveExpenses();
+            resize(-sizeOf(expenseToDelete));
+            markDirty();
             System.out.println("Expense with id " + id + " deleted successfully");
         } else {
             System.out.println("ID: " + id + " doesn't exist.");
@@ -90,12 +149,14 @@ public class ExpensesManager {
                 .orElseThrow(() -> new IllegalArgumentException("Expense with id " + id + " not found."));
 
         // Update only non-null fields (null means 'no change')
+        long previousSize = sizeOf(expense);
         Optional.ofNullable(description).ifPresent(expense::setDescription);
         Optional.ofNullable(amount).ifPresent(expense::setAmount);
         Optional.ofNullable(category).ifPresent(expense::setCategory);
 
         // Persist changes
-        saveExpenses();
+        resize(sizeOf(expense) - previousSize);
+        markDirty();
         System.out.println("Expense with id " + id + " updated successfully");
     }
 
@@ -135,6 +196,91 @@ public class ExpensesManager {
         return null;
     }
 
+    /**
+     * Sums the amount of all the expenses of this ledger.
+     * 
+     * @return total
+     */
+    public double getTotal() {
+        double total = 0;
+        for (Expense expense : expenses) {
+            total += expense.getAmount();
+        }
+
+        return total;
+    }
+
+    /**
+     * Getter of the attribute FILE_PATH
+     * @return path of the JSON file of this ledger
+     */
+    public Path getFilePath() {
+        return FILE_PATH;
+    }
+
+    /**
+     * Setter of the attribute autoSave.
+     * Pending changes are not saved by this method, call saveExpenses() for that.
+     */
+    public void setAutoSave(boolean autoSave) {
+        this.autoSave = autoSave;
+    }
+
+    /**
+     * Setter of the attribute sizeListener.
+     * Used by the LedgerRegistry to keep its memory budget up to date.
+     */
+    public void setSizeListener(LongConsumer sizeListener) {
+        this.sizeListener = sizeListener;
+    }
+
+    /**
+     * Tells if the ledger has changes not written to the JSON file yet,
+     * because saving is deferred or because the last save failed.
+     * @return dirty
+     */
+    public boolean isDirty() {
+        return dirty;
+    }
+
+    /**
+     * Approximate number of bytes this ledger takes in memory.
+     * Used by the LedgerRegistry to respect its memory budget.
+     * 
+     * @return estimated size in bytes
+     */
+    public long estimatedSize() {
+        return size;
+    }
+
+    /**
+     * Approximate number of bytes an expense takes in memory:
+     * object headers plus the chars of its strings (2 bytes each).
+     */
+    private static long sizeOf(Expense expense) {
+        return 96 + 2L * (expense.getDescription().length() + expense.getDate().length());
+    }
+
+    /**
+     * Changes the size of the ledger and tells the listener, if any.
+     */
+    private void resize(long delta) {
+        size += delta;
+        if (sizeListener != null && delta != 0) {
+            sizeListener.accept(delta);
+        }
+    }
+
+    /**
+     * Marks the ledger as changed and saves it if autoSave is enabled.
+     */
+    private void markDirty() {
+        dirty = true;
+        if (autoSave) {
+            saveExpenses();
+        }
+    }
+
     /**
      * Reads all the expenses saved at the JSON file and return them as a list. 
      * @return expenseList
@@ -180,8 +326,10 @@ public class ExpensesManager {
 
     /**
      * Saves all current expenses to the JSON file.
+     * 
+     * @return true if the file was written, false otherwise
      */
-    public void saveExpenses() {
+    public boolean saveExpenses() {
         ArrayList<String> jsonExpenses = new ArrayList<>();
         for (Expense expense : expenses) {
             jsonExpenses.add(expense.toJson());
@@ -193,8 +341,11 @@ public class ExpensesManager {
 
         try { // Attempts to write to the file
             Files.writeString(FILE_PATH, jsonContent);
+            dirty = false;
+            return true;
         } catch (IOException e) { // If it doesn't succeed
             System.out.println("Expenses couldn't be saved to the JSON file.");
+            return false;
         }
     }
 }
@@ -0,0 +1,156 @@
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the recently used ledgers loaded in memory, so working with many
+ * ledgers doesn't parse every JSON file again each time.
+ * Changes to these ledgers are kept in memory and only written to their JSON file
+ * by flushAll() or when the ledger is evicted.
+ * When the number of ledgers or their estimated size goes over the budget,
+ * the least recently used ledger is saved (if it has pending changes) and removed.
+ * A ledger that couldn't be saved is kept in memory so its changes aren't lost.
+ * An evicted ledger saves every later change right away, so a caller still holding it
+ * doesn't lose its changes.
+ * Not thread-safe: the registry and the ledgers it returns must be used from one thread.
+ */
+
+public class LedgerRegistry {
+    // ---- ATTRIBUTES ----
+    /**
+     * Default maximum number of ledgers kept in memory.
+     */
+    public static final int DEFAULT_MAX_LEDGERS = 100;
+
+    /**
+     * Default maximum estimated bytes kept in memory (64 MB).
+     */
+    public static final long DEFAULT_MAX_BYTES = 64L * 1024 * 1024;
+
+    /**
+     * Attribute that stores the loaded ledgers by path, in access order (LRU first).
+     */
+    private final LinkedHashMap<Path, ExpensesManager> ledgers = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * Attribute for the sum of the estimated sizes of the loaded ledgers.
+     * Each ledger reports its size changes, so it's always up to date.
+     */
+    private long usedBytes = 0;
+
+    /**
+     * Attribute for the maximum number of ledgers kept in memory.
+     */
+    private final int maxLedgers;
+
+    /**
+     * Attribute for the maximum estimated bytes kept in memory.
+     */
+    private final long maxBytes;
+
+    // ---- CONSTRUCTOR ----
+    /**
+     * Initializes the registry with the default budget.
+     */
+    public LedgerRegistry() {
+        this(DEFAULT_MAX_LEDGERS, DEFAULT_MAX_BYTES);
+    }
+
+    /**
+     * Initializes the registry with its budget.
+     *
+     * @param maxLedgers Maximum number of ledgers in memory.
+     * @param maxBytes   Maximum estimated size in bytes of the ledgers in memory.
+     */
+    public LedgerRegistry(int maxLedgers, long maxBytes) {
+        if (maxLedgers < 1 || maxBytes < 1) {
+            throw new IllegalArgumentException("The budget of the registry must be positive.");
+        }
+
+        this.maxLedgers = maxLedgers;
+        this.maxBytes = maxBytes;
+    }
+
+    // ---- METHODS ----
+    /**
+     * Returns the ledger of the indicated file, loading it only if it isn't in memory.
+     *
+     * @param filePath Path to the JSON file of the ledger.
+     * @return ledger
+     */
+    public ExpensesManager get(Path filePath) {
+        Path key = filePath.toAbsolutePath().normalize();
+
+        ExpensesManager ledger = ledgers.get(key);
+        if (ledger == null) {
+            ExpensesManager loaded = new ExpensesManager(key, false);
+            loaded.setSizeListener(delta -> sizeChanged(loaded, delta));
+            ledgers.put(key, loaded);
+            usedBytes += loaded.estimatedSize();
+            ledger = loaded;
+        }
+
+        evictIfNeeded(ledger);
+        return ledger;
+    }
+
+    /**
+     * Saves every ledger in memory that has pending changes.
+     *
+     * @return paths of the ledgers that couldn't be saved (empty if all were saved)
+     */
+    public List<Path> flushAll() {
+        List<Path> failed = new ArrayList<>();
+        for (Map.Entry<Path, ExpensesManager> entry : ledgers.entrySet()) {
+            if (entry.getValue().isDirty() && !entry.getValue().saveExpenses()) {
+                failed.add(entry.getKey());
+            }
+        }
+
+        return failed;
+    }
+
+    /**
+     * Paths of the ledgers currently in memory, least recently used first.
+     *
+     * @return paths
+     */
+    public List<Path> getLoadedPaths() {
+        return new ArrayList<>(ledgers.keySet());
+    }
+
+    /**
+     * Called when a loaded ledger grows or shrinks, so the budget is also kept while writing.
+     */
+    private void sizeChanged(ExpensesManager ledger, long delta) {
+        usedBytes += delta;
+        evictIfNeeded(ledger);
+    }
+
+    /**
+     * Removes least recently used ledgers until the registry is inside its budget.
+     * The ledger being returned is never removed, even if it's bigger than the budget by itself,
+     * and neither is a ledger whose pending changes couldn't be saved.
+     */
+    private void evictIfNeeded(ExpensesManager current) {
+        Iterator<Map.Entry<Path, ExpensesManager>> it = ledgers.entrySet().iterator();
+        while ((ledgers.size() > maxLedgers || usedBytes > maxBytes) && it.hasNext()) {
+            Map.Entry<Path, ExpensesManager> eldest = it.next();
+            if (eldest.getValue() == current) {
+                continue;
+            }
+
+            if (eldest.getValue().isDirty() && !eldest.getValue().saveExpenses()) {
+                continue;
+            }
+
+            eldest.getValue().setAutoSave(true);
+            eldest.getValue().setSizeListener(null);
+            usedBytes -= eldest.getValue().estimatedSize();
+            it.remove();
+        }
+    }
+}
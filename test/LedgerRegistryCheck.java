@@ -0,0 +1,85 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Checks the eviction rules of the LedgerRegistry.
+ * Run with: javac -d bin src/*.java test/*.java && java -cp bin LedgerRegistryCheck
+ */
+
+public class LedgerRegistryCheck {
+    public static void main(String[] args) throws IOException {
+        Path dir = Files.createTempDirectory("ledgers");
+        Path a = dir.resolve("a.json");
+        Path b = dir.resolve("b.json");
+        Path c = dir.resolve("c.json");
+
+        // 1) Count limit: the least recently used ledger is evicted.
+        LedgerRegistry byCount = new LedgerRegistry(2, Long.MAX_VALUE);
+        byCount.get(a);
+        byCount.get(b);
+        byCount.get(a); // a is now the most recently used
+        byCount.get(c);
+        check(byCount.getLoadedPaths().equals(List.of(a, c)), "count limit evicts b, got " + byCount.getLoadedPaths());
+
+        // 2) Byte limit: an empty ledger is estimated at 64 bytes, so only one fits in 100.
+        LedgerRegistry byBytes = new LedgerRegistry(10, 100);
+        byBytes.get(a);
+        byBytes.get(b);
+        check(byBytes.getLoadedPaths().equals(List.of(b)), "byte limit evicts a, got " + byBytes.getLoadedPaths());
+
+        // 3) The byte limit is also kept when a loaded ledger grows.
+        LedgerRegistry growing = new LedgerRegistry(10, 200);
+        growing.get(a);
+        ExpensesManager ledgerB = growing.get(b);
+        check(growing.getLoadedPaths().equals(List.of(a, b)), "both empty ledgers fit, got " + growing.getLoadedPaths());
+        ledgerB.addExpense("Groceries", 50.0, "food");
+        check(growing.getLoadedPaths().equals(List.of(b)), "growing b evicts a, got " + growing.getLoadedPaths());
+        growing.flushAll();
+        check(ledgerB.estimatedSize() == new ExpensesManager(b).estimatedSize(), "tracked size matches a fresh load");
+
+        // 4) The ledger being returned is never evicted, even if it's over the budget by itself.
+        LedgerRegistry tiny = new LedgerRegistry(1, 1);
+        tiny.get(a);
+        check(tiny.getLoadedPaths().equals(List.of(a)), "current ledger is kept, got " + tiny.getLoadedPaths());
+
+        // 5) Changes are deferred and written when the ledger is evicted.
+        LedgerRegistry flush = new LedgerRegistry(1, Long.MAX_VALUE);
+        ExpensesManager ledgerA = flush.get(a);
+        ledgerA.addExpense("Lunch", 20.0, "food");
+        check(ledgerA.isDirty() && !Files.exists(a), "change is kept in memory until flushed");
+        flush.get(b);
+        check(!ledgerA.isDirty() && Files.readString(a).contains("Lunch"), "evicted ledger is saved");
+        check(flush.getLoadedPaths().equals(List.of(b)), "a is evicted after saving, got " + flush.getLoadedPaths());
+
+        // 6) A ledger changed after being evicted saves the change right away.
+        ledgerA.addExpense("Dinner", 30.0, "food");
+        check(!ledgerA.isDirty() && Files.readString(a).contains("Dinner"), "change after eviction is saved");
+
+        // 7) A ledger that can't be saved is not evicted and flushAll reports it.
+        Path broken = dir.resolve("missing").resolve("broken.json"); // Its directory doesn't exist.
+        LedgerRegistry failing = new LedgerRegistry(1, Long.MAX_VALUE);
+        failing.get(broken).addExpense("Gas", 40.0, "general");
+        failing.get(b);
+        check(failing.getLoadedPaths().equals(List.of(broken, b)), "unsaved ledger is kept, got " + failing.getLoadedPaths());
+        check(failing.flushAll().equals(List.of(broken)), "flushAll reports the ledger that couldn't be saved");
+
+        // 8) Paths that resolve to the same file share one entry.
+        LedgerRegistry same = new LedgerRegistry(10, Long.MAX_VALUE);
+        ExpensesManager first = same.get(a);
+        ExpensesManager second = same.get(dir.resolve(".").resolve("missing").resolve("..").resolve("a.json"));
+        check(first == second && same.getLoadedPaths().size() == 1, "same absolute path is loaded once");
+
+        System.out.println("All LedgerRegistry checks passed.");
+    }
+
+    /**
+     * Fails with the given message if the condition is false.
+     */
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            throw new IllegalStateException("Check failed: " + message);
+        }
+    }
+}